@@ -0,0 +1,70 @@
+package com.teya.ledger.controller;
+
+import com.teya.ledger.model.AccountStoreStats;
+import com.teya.ledger.model.ImportRequest;
+import com.teya.ledger.model.ReconciliationReport;
+import com.teya.ledger.service.BulkImportService;
+import com.teya.ledger.service.TieredAccountStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@Tag(name = "Ledger Admin API", description = "REST API for ledger administration")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+    private final BulkImportService bulkImportService;
+    private final TieredAccountStore accountStore;
+
+    public AdminController(BulkImportService bulkImportService, TieredAccountStore accountStore) {
+        this.bulkImportService = bulkImportService;
+        this.accountStore = accountStore;
+    }
+
+    // Bulk import of historical transactions
+    @PostMapping("/imports")
+    @Operation(summary = "Import historical transactions",
+            description = "Import a CSV or NDJSON file from the import directory and reconcile closing balances")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import completed, reconciliation report returned"),
+            @ApiResponse(responseCode = "400", description = "Missing or malformed import file")
+    })
+    public ResponseEntity<ReconciliationReport> importTransactions(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Import details",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = ImportRequest.class),
+                            examples = @ExampleObject(
+                                    value = "{\"file\": \"merchant-42.csv\", \"expectedBalancesFile\": \"merchant-42-balances.csv\"}"
+                            )
+                    )
+            )
+            @Valid @RequestBody ImportRequest request) {
+
+        logger.info("Importing transactions from {}", request.file());
+        return ResponseEntity.ok(bulkImportService.importLedger(request));
+    }
+
+    // Account store tiering metrics
+    @GetMapping("/account-store")
+    @Operation(summary = "Get account store metrics",
+            description = "Retrieve resident and evicted account counts, heap estimate, hit/miss and fault latency metrics")
+    @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully")
+    public ResponseEntity<AccountStoreStats> getAccountStoreStats() {
+
+        logger.debug("Retrieving account store metrics");
+        return ResponseEntity.ok(accountStore.stats());
+    }
+}
@@ -20,6 +20,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -94,12 +96,25 @@ public class LedgerController {
 
     // Get account balance
     @GetMapping("/{accountId}/balance")
-    @Operation(summary = "Get account balance", description = "Retrieve current balance for an account")
-    @ApiResponse(responseCode = "200", description = "Balance retrieved successfully")
+    @Operation(summary = "Get account balance",
+            description = "Retrieve current balance for an account, or its balance as of a point in time")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Balance retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid asOf timestamp")
+    })
     public ResponseEntity<AccountBalance> getAccountBalance(
             @Parameter(description = "Account ID", required = true, example = "acc1234567")
-            @PathVariable("accountId") @Size(min = 10, max = 10) String accountId) {
+            @PathVariable("accountId") @Size(min = 10, max = 10) String accountId,
 
+            @Parameter(description = "ISO-8601 local timestamp, without offset or zone, to compute the balance at",
+                    example = "2024-01-31T23:59:59")
+            @RequestParam(value = "asOf", required = false) String asOf) {
+
+        if (asOf != null) {
+            LocalDateTime timestamp = parseAsOf(asOf);
+            logger.debug("Retrieving balance for account {} as of {}", accountId, timestamp);
+            return ResponseEntity.ok(ledgerService.getBalanceAsOf(accountId, timestamp));
+        }
         logger.debug("Retrieving balance for account {}", accountId);
         return ResponseEntity.ok(ledgerService.getBalance(accountId));
     }
@@ -125,4 +140,13 @@ public class LedgerController {
         logger.debug("Retrieving all transactions");
         return ResponseEntity.ok(ledgerService.getAllTransactions());
     }
-}
\ No newline at end of file
+
+    // ISO_LOCAL_DATE_TIME takes any fraction width, matching the timestamps the API returns, and rejects offsets
+    private static LocalDateTime parseAsOf(String asOf) {
+        try {
+            return LocalDateTime.parse(asOf);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value for parameter 'asOf'");
+        }
+    }
+}
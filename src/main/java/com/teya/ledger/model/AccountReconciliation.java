@@ -0,0 +1,12 @@
+package com.teya.ledger.model;
+
+import java.math.BigDecimal;
+
+public record AccountReconciliation(String accountId,
+                                    int transactionCount,
+                                    BigDecimal computedBalance,
+                                    BigDecimal expectedBalance,
+                                    ReconciliationStatus status,
+                                    String message
+) {
+}
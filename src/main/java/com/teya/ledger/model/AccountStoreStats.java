@@ -0,0 +1,14 @@
+package com.teya.ledger.model;
+
+public record AccountStoreStats(int residentAccounts,
+                                int accountsOnDisk,
+                                long estimatedHeapBytes,
+                                long heapBudgetBytes,
+                                long hits,
+                                long misses,
+                                long faults,
+                                long evictions,
+                                long averageFaultMicros,
+                                long maxFaultMicros
+) {
+}
@@ -0,0 +1,10 @@
+package com.teya.ledger.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record ImportRequest(
+        @NotBlank(message = "File is required")
+        String file,
+
+        String expectedBalancesFile) {
+}
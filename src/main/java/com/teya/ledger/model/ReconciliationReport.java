@@ -0,0 +1,14 @@
+package com.teya.ledger.model;
+
+import java.util.List;
+
+public record ReconciliationReport(String file,
+                                   int recordsRead,
+                                   int accountsImported,
+                                   int accountsMatched,
+                                   int accountsMismatched,
+                                   int accountsRejected,
+                                   long durationMillis,
+                                   List<AccountReconciliation> accounts
+) {
+}
@@ -0,0 +1,5 @@
+package com.teya.ledger.model;
+
+public enum ReconciliationStatus {
+    MATCHED, MISMATCHED, UNRECONCILED, REJECTED
+}
@@ -0,0 +1,168 @@
+package com.teya.ledger.service;
+
+import com.teya.ledger.model.Transaction;
+import com.teya.ledger.model.TransactionType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * On-disk tier of the account store: one binary file per evicted account holding its
+ * transactions in timestamp order. Checkpoints are not stored, they are rebuilt on load.
+ */
+final class AccountFileStore {
+
+    private static final String EXTENSION = ".acct";
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+
+    AccountFileStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes the account file atomically, replacing any previous copy
+     */
+    void write(String accountId, List<Transaction> transactions) {
+        Path file = fileOf(accountId);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(transactions.size());
+                for (Transaction transaction : transactions) {
+                    writeString(out, transaction.id());
+                    writeString(out, transaction.amount().toString());
+                    out.writeByte(transaction.type().ordinal());
+                    writeString(out, transaction.timestamp().toString());
+                    writeString(out, transaction.description());
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write account file for " + accountId, e);
+        }
+    }
+
+    /**
+     * @return transactions of the account, or null if it has no file
+     */
+    List<Transaction> read(String accountId) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fileOf(accountId))))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported account file version " + version + " for " + accountId);
+            }
+            int count = in.readInt();
+            List<Transaction> transactions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                transactions.add(new Transaction(
+                        readString(in),
+                        accountId,
+                        new BigDecimal(readString(in)),
+                        TransactionType.values()[in.readByte()],
+                        LocalDateTime.parse(readString(in)),
+                        readString(in)));
+            }
+            return transactions;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read account file for " + accountId, e);
+        }
+    }
+
+    void delete(String accountId) {
+        try {
+            Files.deleteIfExists(fileOf(accountId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete account file for " + accountId, e);
+        }
+    }
+
+    boolean exists(String accountId) {
+        return Files.isRegularFile(fileOf(accountId));
+    }
+
+    Set<String> accountIds() {
+        Set<String> accountIds = new HashSet<>();
+        if (!Files.isDirectory(directory)) {
+            return accountIds;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String encoded = name.substring(0, name.length() - EXTENSION.length());
+                accountIds.add(new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list account files in " + directory, e);
+        }
+        return accountIds;
+    }
+
+    /**
+     * Removes account files left behind by a previous run; the ledger itself is not persistent
+     */
+    void clear() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear account files in " + directory, e);
+        }
+    }
+
+    // Account IDs are Base64 encoded so any ID maps to a safe file name
+    private Path fileOf(String accountId) {
+        String encoded = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(accountId.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(encoded + EXTENSION);
+    }
+
+    // Length-prefixed UTF-8, since DataOutput.writeUTF is limited to 64KB
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new IOException("Truncated account file");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.teya.ledger.service;
+
+import com.teya.ledger.model.Transaction;
+import com.teya.ledger.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-account transaction index with periodic running-balance checkpoints.
+ * Transactions are kept in timestamp order, appends that would break it are refused; every {@code checkpointInterval}
+ * transactions the running balance is recorded so point-in-time queries only
+ * replay the transactions after the nearest checkpoint.
+ * Once evicted to disk a history is read-only: appends are refused so that writers
+ * fault the account back in and never update a copy that is no longer resident.
+ */
+final class AccountHistory {
+
+    record Checkpoint(int index, LocalDateTime timestamp, BigDecimal balance) {
+    }
+
+    enum AppendResult {
+        APPENDED, NOT_EMPTY, EVICTED
+    }
+
+    private final int checkpointInterval;
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BigDecimal balance = BigDecimal.ZERO;
+    private boolean evicted;
+
+    AccountHistory(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Appends a batch of transactions, already sorted by timestamp, under a single lock acquisition.
+     * A checkpoint is recorded each time the interval is reached
+     * @throws IllegalStateException if the batch would put the history out of timestamp order
+     * @return false if the history has been evicted and the batch was not appended
+     */
+    boolean appendAll(List<Transaction> batch) {
+        lock.writeLock().lock();
+        try {
+            if (evicted) {
+                return false;
+            }
+            validateOrder(batch);
+            batch.forEach(this::appendUnlocked);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a batch of transactions only if the history has none yet, so an imported history
+     * is never interleaved with transactions written to the same account concurrently
+     * @throws IllegalStateException if the batch is not in timestamp order
+     */
+    AppendResult appendAllIfEmpty(List<Transaction> batch) {
+        lock.writeLock().lock();
+        try {
+            if (evicted) {
+                return AppendResult.EVICTED;
+            }
+            if (!transactions.isEmpty()) {
+                return AppendResult.NOT_EMPTY;
+            }
+            validateOrder(batch);
+            batch.forEach(this::appendUnlocked);
+            return AppendResult.APPENDED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hands the transactions to the writer and marks the history as evicted once it returns normally.
+     * Runs under the write lock, so no append can slip in between the write and the eviction.
+     * @return false if the history was already evicted
+     */
+    boolean evict(Consumer<List<Transaction>> writer) {
+        lock.writeLock().lock();
+        try {
+            if (evicted) {
+                return false;
+            }
+            writer.accept(transactions);
+            evicted = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Computes the balance including every transaction with a timestamp at or before asOf
+     */
+    BigDecimal balanceAsOf(LocalDateTime asOf) {
+        lock.readLock().lock();
+        try {
+            int checkpoint = floorCheckpoint(asOf);
+            BigDecimal running = checkpoint < 0 ? BigDecimal.ZERO : checkpoints.get(checkpoint).balance();
+            int start = checkpoint < 0 ? 0 : checkpoints.get(checkpoint).index() + 1;
+            for (int i = start; i < transactions.size(); i++) {
+                Transaction transaction = transactions.get(i);
+                if (transaction.timestamp().isAfter(asOf)) {
+                    break;
+                }
+                running = applyTo(running, transaction);
+            }
+            return running;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Transaction> transactions() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(transactions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return timestamp of the latest transaction, or null if there are none
+     */
+    LocalDateTime latestTimestamp() {
+        lock.readLock().lock();
+        try {
+            return transactions.isEmpty() ? null : transactions.get(transactions.size() - 1).timestamp();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return transactions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    BigDecimal balance() {
+        lock.readLock().lock();
+        try {
+            return balance;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Checkpoint search and the replay in balanceAsOf both rely on timestamp order, so nothing is appended if it breaks
+    private void validateOrder(List<Transaction> batch) {
+        LocalDateTime previous = transactions.isEmpty() ? null : transactions.get(transactions.size() - 1).timestamp();
+        for (Transaction transaction : batch) {
+            if (previous != null && transaction.timestamp().isBefore(previous)) {
+                throw new IllegalStateException("Transaction timestamp " + transaction.timestamp()
+                        + " is before the latest transaction of the account at " + previous);
+            }
+            previous = transaction.timestamp();
+        }
+    }
+
+    private void appendUnlocked(Transaction transaction) {
+        balance = applyTo(balance, transaction);
+        transactions.add(transaction);
+        if (transactions.size() % checkpointInterval == 0) {
+            checkpoints.add(new Checkpoint(transactions.size() - 1, transaction.timestamp(), balance));
+        }
+    }
+
+    // Index of the last checkpoint taken at or before asOf, or -1 if there is none
+    private int floorCheckpoint(LocalDateTime asOf) {
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (checkpoints.get(mid).timestamp().isAfter(asOf)) {
+                high = mid - 1;
+            } else {
+                result = mid;
+                low = mid + 1;
+            }
+        }
+        return result;
+    }
+
+    static BigDecimal applyTo(BigDecimal balance, Transaction transaction) {
+        return transaction.type() == TransactionType.DEPOSIT
+                ? balance.add(transaction.amount())
+                : balance.subtract(transaction.amount());
+    }
+}
@@ -0,0 +1,397 @@
+package com.teya.ledger.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.teya.ledger.model.AccountReconciliation;
+import com.teya.ledger.model.ImportRequest;
+import com.teya.ledger.model.ReconciliationReport;
+import com.teya.ledger.model.ReconciliationStatus;
+import com.teya.ledger.model.Transaction;
+import com.teya.ledger.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+@Service
+public class BulkImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+    private static final String HEADER_PREFIX = "accountId";
+    private static final int ACCOUNTS_PER_TASK = 64;
+    // Bounds the open spill files; beyond this, buckets grow past the chunk size instead
+    private static final int MAX_BUCKETS = 1024;
+
+    private final LedgerService ledgerService;
+    private final ObjectReader jsonReader;
+    private final Path importDirectory;
+    private final int parallelism;
+    private final long chunkBytes;
+
+    public BulkImportService(LedgerService ledgerService,
+                             ObjectMapper objectMapper,
+                             @Value("${ledger.import.directory:imports}") String importDirectory,
+                             @Value("${ledger.import.parallelism:0}") int parallelism,
+                             @Value("${ledger.import.chunk-bytes:16777216}") long chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Import chunk size must be positive");
+        }
+        this.ledgerService = ledgerService;
+        // Numeric amounts must reach BigDecimal exactly, not through a double
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.importDirectory = Path.of(importDirectory).toAbsolutePath().normalize();
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Imports historical transactions from a CSV or NDJSON file in the import directory.
+     * The file is validated in a first pass that spills records to disk in buckets of accounts, each
+     * about {@code ledger.import.chunk-bytes} of the source file. Buckets are then loaded one at a time
+     * and their account partitions applied in parallel, so the import never holds the whole file in memory.
+     * Each account's computed closing balance is compared with the expected balances file, if given.
+     * @throws IllegalArgumentException if a file is missing, outside the import directory or malformed
+     * @return reconciliation report with one entry per account
+     */
+    public ReconciliationReport importLedger(ImportRequest request) {
+        long start = System.nanoTime();
+        Path file = resolve(request.file());
+        logger.info("Starting bulk import from {}", file);
+
+        List<AccountReconciliation> accounts = new ArrayList<>();
+        int recordsRead;
+        try (ImportSpill spill = new ImportSpill(bucketCount(file))) {
+            readTransactions(file, spill);
+            recordsRead = spill.records();
+            Map<String, BigDecimal> expectedBalances = request.expectedBalancesFile() == null
+                    ? Map.of()
+                    : readExpectedBalances(resolve(request.expectedBalancesFile()));
+            // Accounts with only an expected balance are reconciled with the bucket they would hash to
+            Map<Integer, List<String>> expectedByBucket = new HashMap<>();
+            expectedBalances.keySet().forEach(accountId ->
+                    expectedByBucket.computeIfAbsent(spill.bucketOf(accountId), b -> new ArrayList<>()).add(accountId));
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (int bucket = 0; bucket < spill.buckets(); bucket++) {
+                    Map<String, List<Transaction>> partitions = spill.read(bucket);
+                    Set<String> accountIds = new TreeSet<>(partitions.keySet());
+                    accountIds.addAll(expectedByBucket.getOrDefault(bucket, List.of()));
+                    accounts.addAll(pool.invoke(new ReconcileTask(new ArrayList<>(accountIds), partitions, expectedBalances)));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        accounts.sort(Comparator.comparing(AccountReconciliation::accountId));
+
+        ReconciliationReport report = new ReconciliationReport(
+                request.file(),
+                recordsRead,
+                (int) accounts.stream().filter(a -> a.status() != ReconciliationStatus.REJECTED
+                        && a.transactionCount() > 0).count(),
+                count(accounts, ReconciliationStatus.MATCHED),
+                count(accounts, ReconciliationStatus.MISMATCHED),
+                count(accounts, ReconciliationStatus.REJECTED),
+                (System.nanoTime() - start) / 1_000_000,
+                accounts);
+
+        logger.info("Bulk import finished - File: {}, Records: {}, Imported: {}, Matched: {}, Mismatched: {}, Rejected: {}",
+                report.file(), report.recordsRead(), report.accountsImported(),
+                report.accountsMatched(), report.accountsMismatched(), report.accountsRejected());
+        return report;
+    }
+
+    private enum Format {
+        CSV, NDJSON
+    }
+
+    // Splits the account list until each task holds a small batch of accounts
+    private class ReconcileTask extends RecursiveTask<List<AccountReconciliation>> {
+        private final List<String> accountIds;
+        private final Map<String, List<Transaction>> partitions;
+        private final Map<String, BigDecimal> expectedBalances;
+
+        ReconcileTask(List<String> accountIds, Map<String, List<Transaction>> partitions,
+                      Map<String, BigDecimal> expectedBalances) {
+            this.accountIds = accountIds;
+            this.partitions = partitions;
+            this.expectedBalances = expectedBalances;
+        }
+
+        @Override
+        protected List<AccountReconciliation> compute() {
+            if (accountIds.size() <= ACCOUNTS_PER_TASK) {
+                List<AccountReconciliation> results = new ArrayList<>(accountIds.size());
+                for (String accountId : accountIds) {
+                    results.add(reconcileOrReject(accountId,
+                            partitions.getOrDefault(accountId, List.of()),
+                            expectedBalances.get(accountId)));
+                }
+                return results;
+            }
+            int middle = accountIds.size() / 2;
+            ReconcileTask left = new ReconcileTask(accountIds.subList(0, middle), partitions, expectedBalances);
+            ReconcileTask right = new ReconcileTask(accountIds.subList(middle, accountIds.size()),
+                    partitions, expectedBalances);
+            left.fork();
+            List<AccountReconciliation> results = new ArrayList<>(right.compute());
+            results.addAll(0, left.join());
+            return results;
+        }
+    }
+
+    // A failure in one account must not abort the other tasks, which may already have committed theirs
+    private AccountReconciliation reconcileOrReject(String accountId, List<Transaction> history, BigDecimal expected) {
+        try {
+            return reconcile(accountId, history, expected);
+        } catch (RuntimeException e) {
+            logger.error("Import failed - Account: {}", accountId, e);
+            return rejected(accountId, history.size(), expected, "Import failed: " + e.getMessage());
+        }
+    }
+
+    private AccountReconciliation reconcile(String accountId, List<Transaction> history, BigDecimal expected) {
+        List<Transaction> sorted = new ArrayList<>(history);
+        sorted.sort(Comparator.comparing(Transaction::timestamp));
+
+        BigDecimal computed = BigDecimal.ZERO;
+        for (Transaction transaction : sorted) {
+            computed = AccountHistory.applyTo(computed, transaction);
+            if (computed.signum() < 0) {
+                return rejected(accountId, sorted.size(), expected,
+                        "Balance goes negative at transaction " + transaction.id());
+            }
+        }
+
+        String note = null;
+        if (sorted.isEmpty()) {
+            // Nothing to import for this account, so reconcile the balance it already has in the ledger
+            computed = ledgerService.getBalance(accountId).balance();
+            note = "No records in import file, compared with ledger balance";
+        } else {
+            try {
+                ledgerService.importHistory(accountId, sorted);
+            } catch (IllegalStateException e) {
+                logger.warn("Import rejected - Account: {}, Reason: {}", accountId, e.getMessage());
+                return rejected(accountId, sorted.size(), expected, e.getMessage());
+            }
+        }
+
+        if (expected == null) {
+            return new AccountReconciliation(accountId, sorted.size(), computed, null,
+                    ReconciliationStatus.UNRECONCILED, "No expected closing balance");
+        }
+        if (computed.compareTo(expected) != 0) {
+            String difference = "differs by " + computed.subtract(expected);
+            return new AccountReconciliation(accountId, sorted.size(), computed, expected,
+                    ReconciliationStatus.MISMATCHED, note == null ? "Computed balance " + difference : note + "; " + difference);
+        }
+        return new AccountReconciliation(accountId, sorted.size(), computed, expected,
+                ReconciliationStatus.MATCHED, note);
+    }
+
+    private AccountReconciliation rejected(String accountId, int transactionCount, BigDecimal expected, String reason) {
+        return new AccountReconciliation(accountId, transactionCount, null, expected,
+                ReconciliationStatus.REJECTED, reason);
+    }
+
+    private static int count(List<AccountReconciliation> accounts, ReconciliationStatus status) {
+        return (int) accounts.stream().filter(a -> a.status() == status).count();
+    }
+
+    private Path resolve(String fileName) {
+        Path file = importDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(importDirectory)) {
+            throw new IllegalArgumentException("Import file must be inside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        }
+        return file;
+    }
+
+    private static Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return Format.NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import file format: " + file.getFileName());
+    }
+
+    // Enough buckets for each to hold about chunkBytes of the source file
+    private int bucketCount(Path file) {
+        try {
+            long buckets = (Files.size(file) + chunkBytes - 1) / chunkBytes;
+            return (int) Math.max(1, Math.min(MAX_BUCKETS, buckets));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import file " + file.getFileName(), e);
+        }
+    }
+
+    // Validates every record before anything is applied, spilling them to disk by account
+    private void readTransactions(Path file, ImportSpill spill) {
+        Format format = formatOf(file);
+        // Live writes are stamped with the current time, so later imported records would break timestamp order
+        LocalDateTime cutoff = LocalDateTime.now();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith(HEADER_PREFIX))) {
+                    continue;
+                }
+                Transaction transaction = format == Format.CSV
+                        ? parseCsv(line, lineNumber)
+                        : parseNdjson(line, lineNumber);
+                if (transaction.timestamp().isAfter(cutoff)) {
+                    throw invalidRecord(lineNumber, "timestamp '" + transaction.timestamp() + "' is in the future");
+                }
+                spill.add(transaction);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import file " + file.getFileName(), e);
+        }
+        spill.finish();
+    }
+
+    // accountId,type,amount,timestamp[,description] - the description may contain commas
+    private Transaction parseCsv(String line, int lineNumber) {
+        String[] fields = line.split(",", 5);
+        if (fields.length < 4) {
+            throw invalidRecord(lineNumber, "expected accountId,type,amount,timestamp[,description]");
+        }
+        String description = fields.length == 5 ? unquote(fields[4].trim()) : "";
+        return toTransaction(fields[0].trim(), fields[1].trim(), fields[2].trim(), fields[3].trim(),
+                description, lineNumber);
+    }
+
+    private Transaction parseNdjson(String line, int lineNumber) {
+        JsonNode node;
+        try {
+            node = jsonReader.readTree(line);
+        } catch (IOException e) {
+            throw invalidRecord(lineNumber, "malformed JSON");
+        }
+        return toTransaction(text(node, "accountId"), text(node, "type"), amount(node),
+                text(node, "timestamp"), text(node, "description"), lineNumber);
+    }
+
+    // IDs are always generated: ids from the file could repeat or collide with transactions already in the ledger
+    private Transaction toTransaction(String accountId, String type, String amount,
+                                      String timestamp, String description, int lineNumber) {
+        if (accountId == null || accountId.isEmpty() || type == null || amount == null || timestamp == null) {
+            throw invalidRecord(lineNumber, "accountId, type, amount and timestamp are required");
+        }
+        return new Transaction(
+                UUID.randomUUID().toString(),
+                accountId,
+                parseAmount(amount, lineNumber),
+                parseType(type, lineNumber),
+                parseTimestamp(timestamp, lineNumber),
+                description == null ? "" : description);
+    }
+
+    private static BigDecimal parseAmount(String amount, int lineNumber) {
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw invalidRecord(lineNumber, "invalid amount '" + amount + "'");
+        }
+        if (value.signum() <= 0) {
+            throw invalidRecord(lineNumber, "amount must be positive");
+        }
+        return value;
+    }
+
+    private static TransactionType parseType(String type, int lineNumber) {
+        try {
+            return TransactionType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw invalidRecord(lineNumber, "invalid type '" + type + "'");
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String timestamp, int lineNumber) {
+        try {
+            return LocalDateTime.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            throw invalidRecord(lineNumber, "invalid timestamp '" + timestamp + "'");
+        }
+    }
+
+    // accountId,expectedBalance
+    private Map<String, BigDecimal> readExpectedBalances(Path file) {
+        Map<String, BigDecimal> expectedBalances = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith(HEADER_PREFIX))) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 2) {
+                    throw invalidRecord(lineNumber, "expected accountId,expectedBalance");
+                }
+                try {
+                    expectedBalances.put(fields[0].trim(), new BigDecimal(fields[1].trim()));
+                } catch (NumberFormatException e) {
+                    throw invalidRecord(lineNumber, "invalid expected balance '" + fields[1].trim() + "'");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read expected balances file " + file.getFileName(), e);
+        }
+        return expectedBalances;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String amount(JsonNode node) {
+        JsonNode value = node.get("amount");
+        return value != null && value.isNumber() ? value.decimalValue().toPlainString() : text(node, "amount");
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalidRecord(int lineNumber, String reason) {
+        return new IllegalArgumentException("Invalid record at line " + lineNumber + ": " + reason);
+    }
+}
@@ -0,0 +1,150 @@
+package com.teya.ledger.service;
+
+import com.teya.ledger.model.Transaction;
+import com.teya.ledger.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scratch files for a bulk import: validated records are spread over bucket files by account,
+ * so each bucket can be loaded and applied on its own instead of holding the whole import in memory.
+ * Every record of an account lands in the same bucket. Closing the spill deletes its files.
+ */
+final class ImportSpill implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ImportSpill.class);
+
+    private final Path directory;
+    private final DataOutputStream[] writers;
+    private final int[] counts;
+    private int records;
+
+    ImportSpill(int buckets) {
+        try {
+            this.directory = Files.createTempDirectory("ledger-import");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create import spill directory", e);
+        }
+        this.writers = new DataOutputStream[buckets];
+        this.counts = new int[buckets];
+    }
+
+    int buckets() {
+        return writers.length;
+    }
+
+    int records() {
+        return records;
+    }
+
+    int bucketOf(String accountId) {
+        return Math.floorMod(accountId.hashCode(), writers.length);
+    }
+
+    void add(Transaction transaction) {
+        int bucket = bucketOf(transaction.accountId());
+        try {
+            DataOutputStream out = writer(bucket);
+            AccountFileStore.writeString(out, transaction.accountId());
+            AccountFileStore.writeString(out, transaction.id());
+            AccountFileStore.writeString(out, transaction.amount().toString());
+            out.writeByte(transaction.type().ordinal());
+            AccountFileStore.writeString(out, transaction.timestamp().toString());
+            AccountFileStore.writeString(out, transaction.description());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write import spill bucket " + bucket, e);
+        }
+        counts[bucket]++;
+        records++;
+    }
+
+    /**
+     * Flushes every bucket; called once all records are added and before any bucket is read
+     */
+    void finish() {
+        for (int bucket = 0; bucket < writers.length; bucket++) {
+            if (writers[bucket] != null) {
+                try {
+                    writers[bucket].close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to write import spill bucket " + bucket, e);
+                }
+                writers[bucket] = null;
+            }
+        }
+    }
+
+    /**
+     * @return records of the bucket grouped by account, in file order
+     */
+    Map<String, List<Transaction>> read(int bucket) {
+        Map<String, List<Transaction>> partitions = new HashMap<>();
+        if (counts[bucket] == 0) {
+            return partitions;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fileOf(bucket))))) {
+            for (int i = 0; i < counts[bucket]; i++) {
+                String accountId = AccountFileStore.readString(in);
+                Transaction transaction = new Transaction(
+                        AccountFileStore.readString(in),
+                        accountId,
+                        new BigDecimal(AccountFileStore.readString(in)),
+                        TransactionType.values()[in.readByte()],
+                        LocalDateTime.parse(AccountFileStore.readString(in)),
+                        AccountFileStore.readString(in));
+                partitions.computeIfAbsent(accountId, id -> new ArrayList<>()).add(transaction);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import spill bucket " + bucket, e);
+        }
+        return partitions;
+    }
+
+    @Override
+    public void close() {
+        for (DataOutputStream writer : writers) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close import spill bucket in {}", directory, e);
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            logger.warn("Failed to delete import spill directory {}", directory, e);
+        }
+    }
+
+    // Opened on first use, so buckets that receive no records never create a file
+    private DataOutputStream writer(int bucket) throws IOException {
+        if (writers[bucket] == null) {
+            writers[bucket] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fileOf(bucket))));
+        }
+        return writers[bucket];
+    }
+
+    private Path fileOf(int bucket) {
+        return directory.resolve("bucket-" + bucket + ".spill");
+    }
+}
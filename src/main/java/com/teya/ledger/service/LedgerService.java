@@ -8,18 +8,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @Service
 public class LedgerService {
     private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
 
-    private final List<Transaction> transactions = new ArrayList<>();
-    private final Map<String, BigDecimal> accountBalances = new ConcurrentHashMap<>();
+    private final TieredAccountStore accountStore;
+
+    public LedgerService(TieredAccountStore accountStore) {
+        this.accountStore = accountStore;
+    }
 
     /**
      * Deposits amount to specified account
@@ -29,7 +31,6 @@ public class LedgerService {
     public synchronized Transaction deposit(String accountId, BigDecimal amount, String description) {
         validateAmount(amount, "Deposit");
         Transaction transaction = createTransaction(accountId, amount, TransactionType.DEPOSIT, description);
-        updateAccountBalance(accountId, amount, Operation.ADD);
         logTransactionSuccess("Deposit", accountId, amount, transaction);
         return transaction;
     }
@@ -45,7 +46,6 @@ public class LedgerService {
         BigDecimal currentBalance = getCurrentBalance(accountId);
         validateSufficientFunds(accountId, amount, currentBalance);
         Transaction transaction = createTransaction(accountId, amount, TransactionType.WITHDRAWAL, description);
-        updateAccountBalance(accountId, amount, Operation.SUBTRACT);
         logTransactionSuccess("Withdrawal", accountId, amount, transaction);
         return transaction;
     }
@@ -57,42 +57,68 @@ public class LedgerService {
     public synchronized AccountBalance getBalance(String accountId) {
         logger.debug("Retrieving balance for account {}", accountId);
 
-        BigDecimal balance = accountBalances.getOrDefault(accountId, BigDecimal.ZERO);
+        BigDecimal balance = getCurrentBalance(accountId);
 
         logger.debug("Balance retrieved - Account: {}, Balance: {}", accountId, balance);
         return new AccountBalance(accountId, balance);
     }
 
+    /**
+     * Gets balance for specified account as of a point in time.
+     * Not synchronized on the ledger so audit queries do not block deposits and withdrawals.
+     * @return AccountBalance including every transaction at or before asOf
+     */
+    public AccountBalance getBalanceAsOf(String accountId, LocalDateTime asOf) {
+        logger.debug("Retrieving balance for account {} as of {}", accountId, asOf);
+
+        AccountHistory history = accountStore.get(accountId);
+        BigDecimal balance = history == null ? BigDecimal.ZERO : history.balanceAsOf(asOf);
+
+        logger.debug("Balance retrieved - Account: {}, As of: {}, Balance: {}", accountId, asOf, balance);
+        return new AccountBalance(accountId, balance);
+    }
+
     /**
      * Gets transaction history for specified account
      * @return List of transactions for the account (empty if none)
      */
-    public synchronized List<Transaction> getTransactionHistory(String accountId) {
+    public List<Transaction> getTransactionHistory(String accountId) {
         logger.debug("Retrieving transaction history for account {}", accountId);
 
-        List<Transaction> history = transactions.stream()
-                .filter(t -> t.accountId().equals(accountId))
-                .collect(Collectors.toList());
+        AccountHistory accountHistory = accountStore.get(accountId);
+        List<Transaction> history = accountHistory == null ? new ArrayList<>() : accountHistory.transactions();
 
         logger.debug("Retrieved {} transactions for account {}", history.size(), accountId);
         return history;
     }
 
     /**
-     * Gets all transactions across all accounts
-     * @return List of all transactions in the system
+     * Gets all transactions across all accounts, including evicted ones
+     * @return List of all transactions in the system ordered by timestamp
      */
     public synchronized List<Transaction> getAllTransactions() {
         logger.debug("Retrieving all transactions");
 
-        List<Transaction> allTransactions = new ArrayList<>(transactions);
+        List<Transaction> allTransactions = accountStore.allTransactions();
 
         logger.debug("Retrieved {} total transactions", allTransactions.size());
         return allTransactions;
     }
 
-    private enum Operation {
-        ADD, SUBTRACT
+    /**
+     * Loads the historical transactions of an account that has no activity yet in this ledger.
+     * Intended for bulk imports: the batch is committed atomically for the account, without the
+     * ledger-wide lock and without per-transaction logging, so partitions can be applied in parallel.
+     * @param history transactions for the account, sorted by timestamp
+     * @throws IllegalStateException if the account already has transactions
+     * @return balance of the account after the import
+     */
+    public AccountBalance importHistory(String accountId, List<Transaction> history) {
+        BigDecimal balance = accountStore.importAll(accountId, history);
+
+        logger.debug("Import successful - Account: {}, Transactions: {}, Balance: {}",
+                accountId, history.size(), balance);
+        return new AccountBalance(accountId, balance);
     }
 
     private void validateAmount(BigDecimal amount, String operationType) {
@@ -103,7 +129,8 @@ public class LedgerService {
     }
 
     private BigDecimal getCurrentBalance(String accountId) {
-        return accountBalances.getOrDefault(accountId, BigDecimal.ZERO);
+        AccountHistory history = accountStore.get(accountId);
+        return history == null ? BigDecimal.ZERO : history.balance();
     }
 
     private void validateSufficientFunds(String accountId, BigDecimal amount, BigDecimal currentBalance) {
@@ -116,19 +143,19 @@ public class LedgerService {
 
     private Transaction createTransaction(String accountId, BigDecimal amount,
                                           TransactionType type, String description) {
-        Transaction transaction = new Transaction(accountId, amount, type, description);
-        transactions.add(transaction);
+        // The wall clock can step backwards (NTP corrections, DST fall-back); never date a transaction
+        // before the account's latest one, so its history stays in timestamp order
+        LocalDateTime timestamp = LocalDateTime.now();
+        AccountHistory history = accountStore.get(accountId);
+        LocalDateTime latest = history == null ? null : history.latestTimestamp();
+        if (latest != null && timestamp.isBefore(latest)) {
+            timestamp = latest;
+        }
+        Transaction transaction = new Transaction(UUID.randomUUID().toString(), accountId, amount, type, timestamp, description);
+        accountStore.appendAll(accountId, List.of(transaction));
         return transaction;
     }
 
-    private void updateAccountBalance(String accountId, BigDecimal amount, Operation operation) {
-        BigDecimal currentBalance = getCurrentBalance(accountId);
-        BigDecimal newBalance = operation == Operation.ADD
-                ? currentBalance.add(amount)
-                : currentBalance.subtract(amount);
-        accountBalances.put(accountId, newBalance);
-    }
-
     private void logTransactionSuccess(String operationType, String accountId,
                                        BigDecimal amount, Transaction transaction) {
         BigDecimal newBalance = getCurrentBalance(accountId);
@@ -0,0 +1,421 @@
+package com.teya.ledger.service;
+
+import com.teya.ledger.model.AccountStoreStats;
+import com.teya.ledger.model.Transaction;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Account store with a bounded in-memory tier. Accounts idle past the configured threshold,
+ * or the least recently used ones once the estimated heap budget is exceeded, are evicted
+ * to an {@link AccountFileStore} and faulted back in on their next access.
+ * The heap budget is enforced by a dedicated evictor thread that writers signal when they push
+ * the estimate over it, so no writer does disk I/O for other accounts. The resident tier can
+ * briefly exceed the budget until the evictor catches up; no account is exempt, so an account
+ * larger than the whole budget is evicted again after each access.
+ */
+@Component
+public class TieredAccountStore {
+    private static final Logger logger = LoggerFactory.getLogger(TieredAccountStore.class);
+
+    // Rough retained sizes used to estimate heap usage of resident accounts
+    static final long ESTIMATED_ACCOUNT_BYTES = 512;
+    static final long ESTIMATED_TRANSACTION_BYTES = 320;
+    // Budget eviction frees down to this share of the budget so it does not run on every write
+    private static final double LOW_WATER_MARK = 0.9;
+
+    private final int checkpointInterval;
+    private final AccountFileStore fileStore;
+    private final long idleThresholdNanos;
+    private final long heapBudgetBytes;
+
+    private final Map<String, Resident> resident = new ConcurrentHashMap<>();
+    // Loads in flight; the holder of an account's entry is the only thread that installs it or deletes its file
+    private final Map<String, CompletableFuture<Resident>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong residentTransactions = new AtomicLong();
+    private final AtomicInteger accountsOnDisk = new AtomicInteger();
+    // Held for each single eviction and while allTransactions lists accounts, never across file reads
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicBoolean evictionRequested = new AtomicBoolean();
+    private final ExecutorService evictor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder faultNanos = new LongAdder();
+    private final AtomicLong maxFaultNanos = new AtomicLong();
+
+    private static final class Resident {
+        final AccountHistory history;
+        volatile long lastAccessNanos = System.nanoTime();
+
+        Resident(AccountHistory history) {
+            this.history = history;
+        }
+    }
+
+    public TieredAccountStore(@Value("${ledger.balance.checkpoint-interval:100}") int checkpointInterval,
+                              @Value("${ledger.store.directory:data/accounts}") String directory,
+                              @Value("${ledger.store.idle-threshold:PT30M}") Duration idleThreshold,
+                              @Value("${ledger.store.heap-budget-bytes:268435456}") long heapBudgetBytes) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        if (heapBudgetBytes <= 0) {
+            throw new IllegalArgumentException("Heap budget must be positive");
+        }
+        this.checkpointInterval = checkpointInterval;
+        this.fileStore = new AccountFileStore(Path.of(directory));
+        this.idleThresholdNanos = toNanosSaturated(idleThreshold);
+        this.heapBudgetBytes = heapBudgetBytes;
+        fileStore.clear();
+    }
+
+    /**
+     * Gets the history of an account, faulting it in from disk if it was evicted
+     * @return the account history, or null if the account has no transactions
+     */
+    AccountHistory get(String accountId) {
+        Resident entry = residentFor(accountId, false);
+        return entry == null ? null : entry.history;
+    }
+
+    /**
+     * Appends transactions to an account, creating it if needed
+     * @return balance of the account after the append
+     */
+    BigDecimal appendAll(String accountId, List<Transaction> batch) {
+        while (true) {
+            Resident entry = residentFor(accountId, true);
+            // An eviction that won the history's lock first leaves it read-only, so fault it back in
+            if (entry.history.appendAll(batch)) {
+                residentTransactions.addAndGet(batch.size());
+                requestBudgetEviction();
+                return entry.history.balance();
+            }
+        }
+    }
+
+    /**
+     * Creates an account from an imported history. Atomic per account rather than ledger-wide,
+     * so imports of different accounts commit concurrently with each other and with live writes.
+     * @throws IllegalStateException if the account already has transactions
+     * @return balance of the account after the import
+     */
+    BigDecimal importAll(String accountId, List<Transaction> history) {
+        while (true) {
+            Resident entry = residentFor(accountId, true);
+            AccountHistory.AppendResult result = entry.history.appendAllIfEmpty(history);
+            if (result == AccountHistory.AppendResult.NOT_EMPTY) {
+                throw new IllegalStateException("Account already has transactions");
+            }
+            if (result == AccountHistory.AppendResult.APPENDED) {
+                residentTransactions.addAndGet(history.size());
+                requestBudgetEviction();
+                return entry.history.balance();
+            }
+        }
+    }
+
+    /**
+     * Reads the transactions of every account without faulting evicted accounts back in.
+     * Evictions are held off only while the accounts are listed, which sees every account since a
+     * fault installs the account before deleting its file. Evicted accounts are read afterwards.
+     */
+    List<Transaction> allTransactions() {
+        Set<String> evictedIds;
+        Map<String, List<Transaction>> byAccount = new HashMap<>();
+        evictionLock.lock();
+        try {
+            evictedIds = fileStore.accountIds();
+            resident.forEach((accountId, entry) -> byAccount.put(accountId, entry.history.transactions()));
+        } finally {
+            evictionLock.unlock();
+        }
+        for (String accountId : evictedIds) {
+            if (!byAccount.containsKey(accountId)) {
+                byAccount.put(accountId, readWithoutFault(accountId));
+            }
+        }
+        List<Transaction> transactions = new ArrayList<>();
+        byAccount.values().forEach(transactions::addAll);
+        transactions.sort(Comparator.comparing(Transaction::timestamp));
+        return transactions;
+    }
+
+    /**
+     * Evicts accounts that have not been accessed within the idle threshold
+     * @return number of accounts evicted
+     */
+    @Scheduled(fixedDelayString = "${ledger.store.eviction-check-interval-ms:60000}")
+    public int evictIdleAccounts() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<String, Resident> entry : resident.entrySet()) {
+            if (now - entry.getValue().lastAccessNanos >= idleThresholdNanos
+                    && evict(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.info("Evicted {} idle accounts, {} remain resident", evicted, resident.size());
+        }
+        return evicted;
+    }
+
+    /**
+     * Evicts least recently used accounts until the estimate is under the low-water mark.
+     * Runs on the evictor thread; every resident account is a candidate.
+     * @return number of accounts evicted
+     */
+    int evictOverBudget() {
+        if (estimatedHeapBytes() <= heapBudgetBytes) {
+            return 0;
+        }
+        long target = (long) (heapBudgetBytes * LOW_WATER_MARK);
+        List<Map.Entry<String, Resident>> candidates = new ArrayList<>(resident.entrySet());
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos));
+        int evicted = 0;
+        for (Map.Entry<String, Resident> candidate : candidates) {
+            // Checked under the lock, so concurrent runs never evict below the low-water mark together
+            evictionLock.lock();
+            try {
+                if (estimatedHeapBytes() <= target) {
+                    break;
+                }
+                if (evictUnlocked(candidate.getKey(), candidate.getValue())) {
+                    evicted++;
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        logger.debug("Evicted {} accounts over the heap budget, estimate now {} bytes", evicted, estimatedHeapBytes());
+        return evicted;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    public AccountStoreStats stats() {
+        long faultCount = faults.sum();
+        return new AccountStoreStats(
+                resident.size(),
+                accountsOnDisk.get(),
+                estimatedHeapBytes(),
+                heapBudgetBytes,
+                hits.sum(),
+                misses.sum(),
+                faultCount,
+                evictions.sum(),
+                faultCount == 0 ? 0 : faultNanos.sum() / faultCount / 1_000,
+                maxFaultNanos.get() / 1_000);
+    }
+
+    long estimatedHeapBytes() {
+        return resident.size() * ESTIMATED_ACCOUNT_BYTES + residentTransactions.get() * ESTIMATED_TRANSACTION_BYTES;
+    }
+
+    private Resident residentFor(String accountId, boolean create) {
+        Resident entry = resident.get(accountId);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entry = faultIn(accountId, create);
+            if (entry == null) {
+                return null;
+            }
+            requestBudgetEviction();
+        }
+        entry.lastAccessNanos = System.nanoTime();
+        return entry;
+    }
+
+    // Disk reads happen outside the resident map; concurrent accesses to the same account wait for one load
+    private Resident faultIn(String accountId, boolean create) {
+        while (true) {
+            CompletableFuture<Resident> pending = new CompletableFuture<>();
+            CompletableFuture<Resident> inFlight = loading.putIfAbsent(accountId, pending);
+            if (inFlight != null) {
+                Resident loaded = await(inFlight);
+                // A lookup that found nothing does not create the account, so a creating caller loads again
+                if (loaded != null || !create) {
+                    return loaded;
+                }
+                continue;
+            }
+            try {
+                Resident loaded = load(accountId, create);
+                pending.complete(loaded);
+                return loaded;
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            } finally {
+                loading.remove(accountId, pending);
+            }
+        }
+    }
+
+    // Called by the holder of the account's loading entry
+    private Resident load(String accountId, boolean create) {
+        Resident current = resident.get(accountId);
+        if (current != null) {
+            return current;
+        }
+        long start = System.nanoTime();
+        List<Transaction> transactions = fileStore.read(accountId);
+        if (transactions == null) {
+            if (!create) {
+                return null;
+            }
+            return install(accountId, new Resident(new AccountHistory(checkpointInterval)));
+        }
+        AccountHistory history = new AccountHistory(checkpointInterval);
+        history.appendAll(transactions);
+        Resident loaded = install(accountId, new Resident(history));
+        if (loaded.history != history) {
+            return loaded;
+        }
+        residentTransactions.addAndGet(transactions.size());
+        // Evictions skip accounts with a load in flight, so this cannot delete a newer copy
+        try {
+            fileStore.delete(accountId);
+            accountsOnDisk.decrementAndGet();
+        } catch (UncheckedIOException e) {
+            logger.warn("Failed to delete account file for {}, it will be overwritten on next eviction", accountId, e);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        faults.increment();
+        faultNanos.add(elapsed);
+        maxFaultNanos.accumulateAndGet(elapsed, Math::max);
+        logger.debug("Account faulted in - Account: {}, Transactions: {}, Latency: {} us",
+                accountId, transactions.size(), elapsed / 1_000);
+        return loaded;
+    }
+
+    // Keeps whichever resident got in first and discards the other
+    private Resident install(String accountId, Resident candidate) {
+        Resident existing = resident.putIfAbsent(accountId, candidate);
+        return existing != null ? existing : candidate;
+    }
+
+    private static Resident await(CompletableFuture<Resident> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Called by writers and faults, which may hold the ledger monitor, so it only signals the evictor
+    private void requestBudgetEviction() {
+        if (estimatedHeapBytes() <= heapBudgetBytes || !evictionRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictor.execute(() -> {
+                // Cleared first, so an overshoot during this run schedules another one
+                evictionRequested.set(false);
+                evictOverBudget();
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Evictor is shut down, skipping budget eviction");
+        }
+    }
+
+    // A listed file can be deleted by a concurrent fault, which installs the account first
+    private List<Transaction> readWithoutFault(String accountId) {
+        while (true) {
+            List<Transaction> transactions = fileStore.read(accountId);
+            if (transactions != null) {
+                return transactions;
+            }
+            Resident entry = resident.get(accountId);
+            if (entry != null) {
+                return entry.history.transactions();
+            }
+        }
+    }
+
+    private boolean evict(String accountId, Resident entry) {
+        evictionLock.lock();
+        try {
+            return evictUnlocked(accountId, entry);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean evictUnlocked(String accountId, Resident entry) {
+        if (loading.containsKey(accountId)) {
+            return false;
+        }
+        try {
+            boolean evicted = entry.history.evict(transactions -> {
+                boolean existed = fileStore.exists(accountId);
+                fileStore.write(accountId, transactions);
+                if (!existed) {
+                    accountsOnDisk.incrementAndGet();
+                }
+                // Removed while the history is still locked, so a concurrent fault reads the complete file
+                resident.remove(accountId, entry);
+                residentTransactions.addAndGet(-transactions.size());
+            });
+            if (evicted) {
+                evictions.increment();
+                logger.debug("Account evicted - Account: {}", accountId);
+            }
+            return evicted;
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to evict account {}, keeping it resident", accountId, e);
+            return false;
+        }
+    }
+
+    private static long toNanosSaturated(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
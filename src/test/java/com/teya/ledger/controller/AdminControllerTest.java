@@ -0,0 +1,72 @@
+package com.teya.ledger.controller;
+
+import com.teya.ledger.model.AccountStoreStats;
+import com.teya.ledger.model.ImportRequest;
+import com.teya.ledger.model.ReconciliationReport;
+import com.teya.ledger.service.BulkImportService;
+import com.teya.ledger.service.TieredAccountStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private BulkImportService bulkImportService;
+
+    @Mock
+    private TieredAccountStore accountStore;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @Test
+    @DisplayName("POST /imports - Should return 200 OK with reconciliation report")
+    void importTransactions_ValidRequest_ReturnsOkWithReport() {
+        ImportRequest request = new ImportRequest("history.csv", "balances.csv");
+        ReconciliationReport report = new ReconciliationReport("history.csv", 0, 0, 0, 0, 0, 1, List.of());
+        when(bulkImportService.importLedger(any(ImportRequest.class))).thenReturn(report);
+
+        ResponseEntity<ReconciliationReport> response = adminController.importTransactions(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report, response.getBody());
+        verify(bulkImportService).importLedger(request);
+    }
+
+    @Test
+    @DisplayName("POST /imports - Should throw IllegalArgumentException when file is malformed")
+    void importTransactions_MalformedFile_ThrowsIllegalArgumentException() {
+        when(bulkImportService.importLedger(any(ImportRequest.class)))
+                .thenThrow(new IllegalArgumentException("Invalid record at line 1: malformed JSON"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> adminController.importTransactions(new ImportRequest("history.ndjson", null)));
+    }
+
+    @Test
+    @DisplayName("GET /account-store - Should return 200 OK with account store metrics")
+    void getAccountStoreStats_ReturnsOkWithStats() {
+        AccountStoreStats stats = new AccountStoreStats(2, 5, 1664, 268435456, 40, 7, 5, 5, 120, 900);
+        when(accountStore.stats()).thenReturn(stats);
+
+        ResponseEntity<AccountStoreStats> response = adminController.getAccountStoreStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+        verify(accountStore).stats();
+    }
+}
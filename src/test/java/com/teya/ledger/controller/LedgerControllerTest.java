@@ -1,5 +1,6 @@
 package com.teya.ledger.controller;
 
+import com.teya.ledger.exception.GlobalExceptionHandler;
 import com.teya.ledger.model.AccountBalance;
 import com.teya.ledger.model.Transaction;
 import com.teya.ledger.model.TransactionRequest;
@@ -14,8 +15,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -23,7 +27,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class LedgerControllerTest {
@@ -106,7 +114,7 @@ class LedgerControllerTest {
     void getAccountBalance_ValidAccount_ReturnsOkWithBalance() {
         when(ledgerService.getBalance(anyString())).thenReturn(sampleBalance);
 
-        ResponseEntity<AccountBalance> response = ledgerController.getAccountBalance(ACC_123);
+        ResponseEntity<AccountBalance> response = ledgerController.getAccountBalance(ACC_123, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -114,6 +122,19 @@ class LedgerControllerTest {
         verify(ledgerService).getBalance(ACC_123);
     }
 
+    @Test
+    @DisplayName("GET /balance/{accountId}?asOf - Should return 200 OK with point-in-time balance")
+    void getAccountBalance_WithAsOf_ReturnsOkWithBalanceAsOf() {
+        LocalDateTime asOf = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        when(ledgerService.getBalanceAsOf(ACC_123, asOf)).thenReturn(sampleBalance);
+
+        ResponseEntity<AccountBalance> response = ledgerController.getAccountBalance(ACC_123, "2024-01-31T23:59:59");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sampleBalance, response.getBody());
+        verify(ledgerService).getBalanceAsOf(ACC_123, asOf);
+    }
+
     @Test
     @DisplayName("GET /transactions/{accountId} - Should return 200 OK with transactions for valid account")
     void getAccountTransactions_ValidAccount_ReturnsOkWithTransactions() {
@@ -141,4 +162,48 @@ class LedgerControllerTest {
         assertEquals(sampleTransactions, response.getBody());
         verify(ledgerService).getAllTransactions();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /balance/{accountId}?asOf - Should parse a local timestamp from the query string")
+    void getAccountBalance_LocalAsOf_ReturnsOk() throws Exception {
+        LocalDateTime asOf = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        when(ledgerService.getBalanceAsOf(ACC_123, asOf)).thenReturn(sampleBalance);
+
+        mockMvc().perform(get("/api/v1/accounts/{accountId}/balance", ACC_123).param("asOf", "2024-01-31T23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(500.0));
+    }
+
+    @Test
+    @DisplayName("GET /balance/{accountId}?asOf - Should accept microsecond and minute precision timestamps")
+    void getAccountBalance_VariablePrecisionAsOf_ReturnsOk() throws Exception {
+        LocalDateTime micros = LocalDateTime.of(2026, 10, 18, 23, 34, 9, 123_456_000);
+        LocalDateTime minutes = LocalDateTime.of(2024, 1, 31, 23, 59);
+        when(ledgerService.getBalanceAsOf(ACC_123, micros)).thenReturn(sampleBalance);
+        when(ledgerService.getBalanceAsOf(ACC_123, minutes)).thenReturn(sampleBalance);
+
+        mockMvc().perform(get("/api/v1/accounts/{accountId}/balance", ACC_123).param("asOf", "2026-10-18T23:34:09.123456"))
+                .andExpect(status().isOk());
+        mockMvc().perform(get("/api/v1/accounts/{accountId}/balance", ACC_123).param("asOf", "2024-01-31T23:59"))
+                .andExpect(status().isOk());
+
+        verify(ledgerService).getBalanceAsOf(ACC_123, micros);
+        verify(ledgerService).getBalanceAsOf(ACC_123, minutes);
+    }
+
+    @Test
+    @DisplayName("GET /balance/{accountId}?asOf - Should return 400 BAD REQUEST for a timestamp with an offset")
+    void getAccountBalance_ZonedAsOf_ReturnsBadRequest() throws Exception {
+        mockMvc().perform(get("/api/v1/accounts/{accountId}/balance", ACC_123).param("asOf", "2024-01-31T23:59:59+05:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid value for parameter 'asOf'"));
+
+        verifyNoInteractions(ledgerService);
+    }
+
+    private MockMvc mockMvc() {
+        return MockMvcBuilders.standaloneSetup(ledgerController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+}
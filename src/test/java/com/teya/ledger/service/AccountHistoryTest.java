@@ -0,0 +1,82 @@
+package com.teya.ledger.service;
+
+import com.teya.ledger.model.Transaction;
+import com.teya.ledger.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private AccountHistory history;
+
+    @BeforeEach
+    void setUp() {
+        history = new AccountHistory(3);
+        // Deposits of 10 each day, with a withdrawal of 5 on every fourth day
+        for (int day = 0; day < 10; day++) {
+            TransactionType type = day % 4 == 3 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            BigDecimal amount = type == TransactionType.DEPOSIT ? BigDecimal.TEN : BigDecimal.valueOf(5);
+            history.appendAll(List.of(new Transaction("tx" + day, "acc1", amount, type, START.plusDays(day), "Day " + day)));
+        }
+    }
+
+    @Test
+    @DisplayName("BalanceAsOf - Should return zero before the first transaction")
+    void balanceAsOf_beforeFirstTransaction_shouldReturnZero() {
+        assertEquals(BigDecimal.ZERO, history.balanceAsOf(START.minusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("BalanceAsOf - Should include transactions exactly at the timestamp")
+    void balanceAsOf_exactTimestamp_shouldIncludeTransaction() {
+        assertEquals(BigDecimal.TEN, history.balanceAsOf(START));
+        // Day 2 is the first checkpoint: 10 + 10 + 10
+        assertEquals(BigDecimal.valueOf(30), history.balanceAsOf(START.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("BalanceAsOf - Should replay forward from the nearest checkpoint")
+    void balanceAsOf_betweenCheckpoints_shouldMatchFullReplay() {
+        for (int day = 0; day < 10; day++) {
+            LocalDateTime asOf = START.plusDays(day).plusHours(12);
+            assertEquals(replay(asOf), history.balanceAsOf(asOf), "as of day " + day);
+        }
+    }
+
+    @Test
+    @DisplayName("BalanceAsOf - Should return current balance after the last transaction")
+    void balanceAsOf_afterLastTransaction_shouldReturnCurrentBalance() {
+        // 8 deposits of 10 and 2 withdrawals of 5
+        assertEquals(BigDecimal.valueOf(70), history.balanceAsOf(START.plusYears(1)));
+    }
+
+    @Test
+    @DisplayName("AppendAll - Should refuse a transaction older than the latest one")
+    void appendAll_olderTimestamp_shouldThrowException() {
+        Transaction older = new Transaction("late", "acc1", BigDecimal.TEN, TransactionType.DEPOSIT, START.plusDays(5), "Late");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> history.appendAll(List.of(older)));
+
+        assertEquals("Transaction timestamp " + START.plusDays(5)
+                + " is before the latest transaction of the account at " + START.plusDays(9), exception.getMessage());
+        assertEquals(10, history.size());
+        assertEquals(BigDecimal.valueOf(70), history.balanceAsOf(START.plusYears(1)));
+    }
+
+    private BigDecimal replay(LocalDateTime asOf) {
+        return history.transactions().stream()
+                .filter(t -> !t.timestamp().isAfter(asOf))
+                .map(t -> t.type() == TransactionType.DEPOSIT ? t.amount() : t.amount().negate())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,244 @@
+package com.teya.ledger.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teya.ledger.model.AccountReconciliation;
+import com.teya.ledger.model.ImportRequest;
+import com.teya.ledger.model.ReconciliationReport;
+import com.teya.ledger.model.ReconciliationStatus;
+import com.teya.ledger.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+class BulkImportServiceTest {
+
+    private static final long CHUNK_BYTES = 16 * 1024 * 1024;
+
+    @TempDir
+    Path importDirectory;
+
+    private LedgerService ledgerService;
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        TieredAccountStore accountStore = new TieredAccountStore(4, importDirectory.resolve("accounts").toString(),
+                ChronoUnit.FOREVER.getDuration(), Long.MAX_VALUE);
+        ledgerService = new LedgerService(accountStore);
+        bulkImportService = new BulkImportService(ledgerService, new ObjectMapper(), importDirectory.toString(), 4, CHUNK_BYTES);
+    }
+
+    @Test
+    @DisplayName("Import - Should load CSV history and match expected balances")
+    void importLedger_csv_shouldMatchExpectedBalances() throws IOException {
+        write("history.csv",
+                "accountId,type,amount,timestamp,description",
+                "acc1,WITHDRAWAL,30,2024-01-02T10:00:00,ATM",
+                "acc1,DEPOSIT,100,2024-01-01T10:00:00,\"Opening, balance\"",
+                "acc2,deposit,50.25,2024-01-01T09:00:00,Salary");
+        write("balances.csv", "accountId,expectedBalance", "acc1,70", "acc2,50.25");
+
+        ReconciliationReport report = bulkImportService.importLedger(new ImportRequest("history.csv", "balances.csv"));
+
+        assertEquals(3, report.recordsRead());
+        assertEquals(2, report.accountsImported());
+        assertEquals(2, report.accountsMatched());
+        assertEquals(BigDecimal.valueOf(70), ledgerService.getBalance("acc1").balance());
+        assertEquals("Opening, balance", ledgerService.getTransactionHistory("acc1").get(0).description());
+        assertEquals(BigDecimal.valueOf(100),
+                ledgerService.getBalanceAsOf("acc1", LocalDateTime.of(2024, 1, 1, 12, 0)).balance());
+    }
+
+    @Test
+    @DisplayName("Import - Should load NDJSON history across many accounts in parallel")
+    void importLedger_ndjson_shouldImportAllAccounts() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int account = 0; account < 500; account++) {
+            for (int day = 1; day <= 10; day++) {
+                lines.add("{\"accountId\":\"acc" + account + "\",\"type\":\"DEPOSIT\",\"amount\":\"10\","
+                        + "\"timestamp\":\"2024-01-" + String.format("%02d", day) + "T00:00:00\",\"description\":\"Day " + day + "\"}");
+            }
+        }
+        write("history.ndjson", lines.toArray(String[]::new));
+
+        ReconciliationReport report = bulkImportService.importLedger(new ImportRequest("history.ndjson", null));
+
+        assertEquals(5000, report.recordsRead());
+        assertEquals(500, report.accountsImported());
+        assertTrue(report.accounts().stream().allMatch(a -> a.status() == ReconciliationStatus.UNRECONCILED));
+        assertEquals(BigDecimal.valueOf(100), ledgerService.getBalance("acc499").balance());
+        assertEquals(5000, ledgerService.getAllTransactions().size());
+    }
+
+    @Test
+    @DisplayName("Import - Should apply a file larger than the chunk size one bucket at a time")
+    void importLedger_fileLargerThanChunk_shouldImportEveryBucket() throws IOException {
+        bulkImportService = new BulkImportService(ledgerService, new ObjectMapper(), importDirectory.toString(), 4, 1024);
+        List<String> lines = new ArrayList<>();
+        List<String> balances = new ArrayList<>();
+        for (int account = 0; account < 200; account++) {
+            for (int day = 1; day <= 5; day++) {
+                lines.add("acc" + account + ",DEPOSIT,10,2024-01-0" + day + "T00:00:00,Day " + day);
+            }
+            balances.add("acc" + account + ",50");
+        }
+        balances.add("expectedOnly,0");
+        write("history.csv", lines.toArray(String[]::new));
+        write("balances.csv", balances.toArray(String[]::new));
+
+        ReconciliationReport report = bulkImportService.importLedger(new ImportRequest("history.csv", "balances.csv"));
+
+        assertEquals(1000, report.recordsRead());
+        assertEquals(200, report.accountsImported());
+        assertEquals(201, report.accountsMatched());
+        assertEquals("acc0", report.accounts().get(0).accountId());
+        assertEquals("expectedOnly", report.accounts().get(200).accountId());
+        assertEquals(BigDecimal.valueOf(50), ledgerService.getBalance("acc199").balance());
+        assertEquals(1000, ledgerService.getAllTransactions().size());
+    }
+
+    @Test
+    @DisplayName("Import - Should read NDJSON numeric amounts exactly and generate transaction IDs")
+    void importLedger_ndjsonNumericAmounts_shouldKeepPrecision() throws IOException {
+        write("history.ndjson",
+                "{\"id\":\"dup\",\"accountId\":\"acc1\",\"type\":\"DEPOSIT\",\"amount\":12345678901234567.891,\"timestamp\":\"2024-01-01T00:00:00\"}",
+                "{\"id\":\"dup\",\"accountId\":\"acc1\",\"type\":\"DEPOSIT\",\"amount\":0.1,\"timestamp\":\"2024-01-02T00:00:00\"}");
+
+        bulkImportService.importLedger(new ImportRequest("history.ndjson", null));
+
+        List<Transaction> history = ledgerService.getTransactionHistory("acc1");
+        assertEquals(new BigDecimal("12345678901234567.891"), history.get(0).amount());
+        assertEquals(new BigDecimal("12345678901234567.991"), ledgerService.getBalance("acc1").balance());
+        assertNotEquals("dup", history.get(0).id());
+        assertNotEquals(history.get(0).id(), history.get(1).id());
+    }
+
+    @Test
+    @DisplayName("Import - Should report mismatched and rejected accounts")
+    void importLedger_badAccounts_shouldBeReported() throws IOException {
+        ledgerService.deposit("existing", BigDecimal.TEN, "Live deposit");
+        write("history.csv",
+                "acc1,DEPOSIT,100,2024-01-01T10:00:00,Opening",
+                "acc2,WITHDRAWAL,5,2024-01-01T10:00:00,Overdraw",
+                "existing,DEPOSIT,1,2024-01-01T10:00:00,Old deposit");
+        write("balances.csv", "acc1,90");
+
+        ReconciliationReport report = bulkImportService.importLedger(new ImportRequest("history.csv", "balances.csv"));
+
+        assertEquals(1, report.accountsImported());
+        assertEquals(1, report.accountsMismatched());
+        assertEquals(2, report.accountsRejected());
+        AccountReconciliation acc1 = report.accounts().get(0);
+        assertEquals(ReconciliationStatus.MISMATCHED, acc1.status());
+        assertEquals(BigDecimal.valueOf(100), acc1.computedBalance());
+        assertEquals(BigDecimal.ZERO, ledgerService.getBalance("acc2").balance());
+        List<Transaction> existing = ledgerService.getTransactionHistory("existing");
+        assertEquals(1, existing.size());
+    }
+
+    @Test
+    @DisplayName("Import - Should reject malformed records before applying anything")
+    void importLedger_malformedRecord_shouldThrowException() throws IOException {
+        write("history.csv",
+                "acc1,DEPOSIT,100,2024-01-01T10:00:00,Opening",
+                "acc1,DEPOSIT,abc,2024-01-02T10:00:00,Broken");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bulkImportService.importLedger(new ImportRequest("history.csv", null)));
+
+        assertEquals("Invalid record at line 2: invalid amount 'abc'", exception.getMessage());
+        assertTrue(ledgerService.getAllTransactions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Import - Should reject records dated in the future")
+    void importLedger_futureTimestamp_shouldThrowException() throws IOException {
+        String tomorrow = LocalDateTime.now().plusDays(1).withNano(0).toString();
+        write("history.csv",
+                "acc1,DEPOSIT,100,2024-01-01T10:00:00,Opening",
+                "acc1,DEPOSIT,50," + tomorrow + ",Postdated");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bulkImportService.importLedger(new ImportRequest("history.csv", null)));
+
+        assertEquals("Invalid record at line 2: timestamp '" + tomorrow + "' is in the future", exception.getMessage());
+        assertTrue(ledgerService.getAllTransactions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Import - Should reconcile accounts without import records against their ledger balance")
+    void importLedger_expectedBalanceOnly_shouldCompareWithLedgerBalance() throws IOException {
+        ledgerService.deposit("existing", BigDecimal.TEN, "Live deposit");
+        write("history.csv", "acc1,DEPOSIT,100,2024-01-01T10:00:00,Opening");
+        write("balances.csv", "acc1,100", "existing,10", "unknown,5");
+
+        ReconciliationReport report = bulkImportService.importLedger(new ImportRequest("history.csv", "balances.csv"));
+
+        assertEquals(1, report.accountsImported());
+        assertEquals(2, report.accountsMatched());
+        assertEquals(1, report.accountsMismatched());
+        AccountReconciliation existing = report.accounts().get(1);
+        assertEquals("existing", existing.accountId());
+        assertEquals(ReconciliationStatus.MATCHED, existing.status());
+        assertEquals(0, existing.transactionCount());
+        assertEquals(BigDecimal.TEN, existing.computedBalance());
+        assertEquals("No records in import file, compared with ledger balance", existing.message());
+        AccountReconciliation unknown = report.accounts().get(2);
+        assertEquals(ReconciliationStatus.MISMATCHED, unknown.status());
+        assertEquals(BigDecimal.ZERO, unknown.computedBalance());
+        assertEquals(1, ledgerService.getTransactionHistory("existing").size());
+    }
+
+    @Test
+    @DisplayName("Import - Should report an account whose commit fails and still import the others")
+    void importLedger_failingAccount_shouldBeRejectedWithCause() throws IOException {
+        LedgerService failingLedger = spy(ledgerService);
+        doThrow(new UncheckedIOException("Disk full", new IOException("Disk full")))
+                .when(failingLedger).importHistory(eq("acc2"), anyList());
+        bulkImportService = new BulkImportService(failingLedger, new ObjectMapper(), importDirectory.toString(), 4, CHUNK_BYTES);
+        write("history.csv",
+                "acc1,DEPOSIT,100,2024-01-01T10:00:00,Opening",
+                "acc2,DEPOSIT,200,2024-01-01T10:00:00,Opening",
+                "acc3,DEPOSIT,300,2024-01-01T10:00:00,Opening");
+
+        ReconciliationReport report = bulkImportService.importLedger(new ImportRequest("history.csv", null));
+
+        assertEquals(3, report.accounts().size());
+        assertEquals(2, report.accountsImported());
+        assertEquals(1, report.accountsRejected());
+        AccountReconciliation acc2 = report.accounts().get(1);
+        assertEquals(ReconciliationStatus.REJECTED, acc2.status());
+        assertEquals("Import failed: Disk full", acc2.message());
+        assertEquals(BigDecimal.valueOf(300), ledgerService.getBalance("acc3").balance());
+    }
+
+    @Test
+    @DisplayName("Import - Should refuse files outside the import directory")
+    void importLedger_pathOutsideDirectory_shouldThrowException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bulkImportService.importLedger(new ImportRequest("../history.csv", null)));
+
+        assertEquals("Import file must be inside the import directory", exception.getMessage());
+    }
+
+    private void write(String fileName, String... lines) throws IOException {
+        Files.write(importDirectory.resolve(fileName), List.of(lines));
+    }
+}
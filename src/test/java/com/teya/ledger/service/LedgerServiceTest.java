@@ -7,21 +7,34 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 class LedgerServiceTest {
 
+    @TempDir
+    Path directory;
+
     private LedgerService ledgerService;
 
     @BeforeEach
     void setUp() {
-        ledgerService = new LedgerService();
+        ledgerService = new LedgerService(inMemoryStore(100));
     }
 
     @Test
@@ -120,6 +133,28 @@ class LedgerServiceTest {
         assertEquals(BigDecimal.valueOf(250), balance.balance());
     }
 
+    @Test
+    @DisplayName("GetBalanceAsOf - Should return zero for new account")
+    void getBalanceAsOf_newAccount_shouldReturnZero() {
+        AccountBalance balance = ledgerService.getBalanceAsOf("newAcc", LocalDateTime.now());
+
+        assertEquals("newAcc", balance.accountId());
+        assertEquals(BigDecimal.ZERO, balance.balance());
+    }
+
+    @Test
+    @DisplayName("GetBalanceAsOf - Should return balance before first and at last transaction")
+    void getBalanceAsOf_aroundTransactions_shouldReturnRunningBalance() {
+        ledgerService = new LedgerService(inMemoryStore(2));
+        Transaction first = ledgerService.deposit("acc1", BigDecimal.valueOf(300), "Deposit 1");
+        ledgerService.withdraw("acc1", BigDecimal.valueOf(100), "Withdrawal 1");
+        ledgerService.deposit("acc1", BigDecimal.valueOf(50), "Deposit 2");
+        Transaction last = ledgerService.deposit("acc1", BigDecimal.valueOf(25), "Deposit 3");
+
+        assertEquals(BigDecimal.ZERO, ledgerService.getBalanceAsOf("acc1", first.timestamp().minusNanos(1)).balance());
+        assertEquals(BigDecimal.valueOf(275), ledgerService.getBalanceAsOf("acc1", last.timestamp()).balance());
+    }
+
     @Test
     @DisplayName("GetTransactionHistory - Should return empty list for new account")
     void getTransactionHistory_newAccount_shouldReturnEmptyList() {
@@ -150,4 +185,84 @@ class LedgerServiceTest {
         List<Transaction> allTransactions = ledgerService.getAllTransactions();
         assertEquals(3, allTransactions.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Evicted accounts - Should serve balances and history after eviction to disk")
+    void evictedAccounts_shouldBeFaultedBackInTransparently() {
+        TieredAccountStore accountStore = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+        ledgerService = new LedgerService(accountStore);
+        ledgerService.deposit("acc1", BigDecimal.valueOf(300), "Deposit 1");
+        ledgerService.deposit("acc2", BigDecimal.valueOf(200), "Deposit 2");
+        accountStore.evictIdleAccounts();
+
+        assertEquals(2, ledgerService.getAllTransactions().size());
+        ledgerService.withdraw("acc1", BigDecimal.valueOf(100), "Withdrawal 1");
+
+        assertEquals(BigDecimal.valueOf(200), ledgerService.getBalance("acc1").balance());
+        assertEquals(2, ledgerService.getTransactionHistory("acc1").size());
+        assertEquals(BigDecimal.valueOf(200), ledgerService.getBalance("acc2").balance());
+        assertEquals(3, ledgerService.getAllTransactions().size());
+    }
+
+    @Test
+    @DisplayName("ImportHistory - Should commit partitions concurrently without the ledger-wide lock")
+    void importHistory_twoPartitions_shouldCommitConcurrently() throws Exception {
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Both imports must meet at the barrier and finish while this thread holds the ledger monitor
+            synchronized (ledgerService) {
+                Future<AccountBalance> first = executor.submit(() -> {
+                    bothStarted.await(5, TimeUnit.SECONDS);
+                    return ledgerService.importHistory("acc1", List.of(imported("acc1", 100)));
+                });
+                Future<AccountBalance> second = executor.submit(() -> {
+                    bothStarted.await(5, TimeUnit.SECONDS);
+                    return ledgerService.importHistory("acc2", List.of(imported("acc2", 200)));
+                });
+
+                assertEquals(BigDecimal.valueOf(100), first.get(5, TimeUnit.SECONDS).balance());
+                assertEquals(BigDecimal.valueOf(200), second.get(5, TimeUnit.SECONDS).balance());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("ImportHistory - Should reject an account that already has transactions")
+    void importHistory_existingAccount_shouldThrowException() {
+        ledgerService.deposit("acc1", BigDecimal.valueOf(10), "Live deposit");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> ledgerService.importHistory("acc1", List.of(imported("acc1", 100))));
+
+        assertEquals("Account already has transactions", exception.getMessage());
+        assertEquals(BigDecimal.valueOf(10), ledgerService.getBalance("acc1").balance());
+    }
+
+    @Test
+    @DisplayName("Deposit - Should not date a transaction before the account's latest one")
+    void deposit_clockBehindLatestTransaction_shouldKeepTimestampOrder() {
+        // Stands in for the wall clock stepping backwards after the account's last transaction
+        LocalDateTime latest = LocalDateTime.now().plusDays(1);
+        ledgerService.importHistory("acc1", List.of(new Transaction("tx-latest", "acc1", BigDecimal.valueOf(100),
+                TransactionType.DEPOSIT, latest, "Latest")));
+
+        Transaction transaction = ledgerService.deposit("acc1", BigDecimal.valueOf(50), "After clock step");
+
+        assertEquals(latest, transaction.timestamp());
+        assertEquals(BigDecimal.valueOf(150), ledgerService.getBalanceAsOf("acc1", latest).balance());
+        assertEquals(BigDecimal.ZERO, ledgerService.getBalanceAsOf("acc1", latest.minusNanos(1)).balance());
+    }
+
+    private static Transaction imported(String accountId, long amount) {
+        return new Transaction(accountId + "-imported", accountId, BigDecimal.valueOf(amount),
+                TransactionType.DEPOSIT, LocalDateTime.of(2024, 1, 1, 0, 0), "Imported");
+    }
+
+    // Never evicts on its own, so accounts stay in memory unless a test evicts them explicitly
+    private TieredAccountStore inMemoryStore(int checkpointInterval) {
+        return new TieredAccountStore(checkpointInterval, directory.toString(), ChronoUnit.FOREVER.getDuration(), Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,192 @@
+package com.teya.ledger.service;
+
+import com.teya.ledger.model.AccountStoreStats;
+import com.teya.ledger.model.Transaction;
+import com.teya.ledger.model.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredAccountStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("EvictIdleAccounts - Should move idle accounts to disk and fault them back in on access")
+    void evictIdleAccounts_thenGet_shouldFaultAccountBackIn() throws IOException {
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+        store.appendAll("acc1", List.of(deposit("acc1", 0, "100"), deposit("acc1", 1, "50.50"), deposit("acc1", 2, "1")));
+
+        assertEquals(1, store.evictIdleAccounts());
+        assertEquals(0, store.stats().residentAccounts());
+        assertEquals(1, store.stats().accountsOnDisk());
+        assertEquals(1, accountFiles());
+
+        AccountHistory history = store.get("acc1");
+
+        assertEquals(new BigDecimal("151.50"), history.balance());
+        assertEquals(new BigDecimal("150.50"), history.balanceAsOf(START.plusDays(1)));
+        assertEquals("Day 1", history.transactions().get(1).description());
+        AccountStoreStats stats = store.stats();
+        assertEquals(1, stats.residentAccounts());
+        assertEquals(0, stats.accountsOnDisk());
+        assertEquals(0, accountFiles());
+        assertEquals(1, stats.faults());
+        assertEquals(1, stats.evictions());
+    }
+
+    @Test
+    @DisplayName("EvictIdleAccounts - Should keep accounts accessed within the idle threshold")
+    void evictIdleAccounts_recentlyAccessed_shouldStayResident() {
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ofHours(1), Long.MAX_VALUE);
+        store.appendAll("acc1", List.of(deposit("acc1", 0, "100")));
+
+        assertEquals(0, store.evictIdleAccounts());
+        assertEquals(1, store.stats().residentAccounts());
+    }
+
+    @Test
+    @DisplayName("EvictOverBudget - Should evict least recently used accounts when over the heap budget")
+    void evictOverBudget_overHeapBudget_shouldEvictLeastRecentlyUsed() {
+        long budget = 3 * (TieredAccountStore.ESTIMATED_ACCOUNT_BYTES + TieredAccountStore.ESTIMATED_TRANSACTION_BYTES);
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ofHours(1), budget);
+
+        for (int account = 0; account < 10; account++) {
+            store.appendAll("acc" + account, List.of(deposit("acc" + account, account, "10")));
+        }
+        store.evictOverBudget();
+
+        AccountStoreStats stats = store.stats();
+        assertTrue(stats.estimatedHeapBytes() <= budget);
+        assertTrue(stats.residentAccounts() < 10);
+        assertEquals(10 - stats.residentAccounts(), stats.accountsOnDisk());
+        assertEquals(10, store.allTransactions().size());
+        assertEquals(BigDecimal.TEN, store.get("acc0").balance());
+        AccountStoreStats afterFault = store.stats();
+        assertEquals(1, afterFault.faults());
+        assertEquals(10 - afterFault.residentAccounts(), afterFault.accountsOnDisk());
+    }
+
+    @Test
+    @DisplayName("AppendAll - Should signal the evictor, which evicts even an account larger than the budget")
+    void appendAll_accountLargerThanBudget_shouldBeEvictedInBackground() throws InterruptedException {
+        long budget = TieredAccountStore.ESTIMATED_ACCOUNT_BYTES + 2 * TieredAccountStore.ESTIMATED_TRANSACTION_BYTES;
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ofHours(1), budget);
+
+        store.appendAll("acc1", List.of(deposit("acc1", 0, "100"), deposit("acc1", 1, "50"), deposit("acc1", 2, "25")));
+
+        awaitResidentAccounts(store, 0);
+        assertEquals(1, store.stats().accountsOnDisk());
+        assertEquals(BigDecimal.valueOf(175), store.get("acc1").balance());
+    }
+
+    @Test
+    @DisplayName("AppendAll - Should append to an evicted account without losing history")
+    void appendAll_evictedAccount_shouldKeepEarlierTransactions() {
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+        store.appendAll("acc1", List.of(deposit("acc1", 0, "100")));
+        store.evictIdleAccounts();
+
+        BigDecimal balance = store.appendAll("acc1", List.of(deposit("acc1", 1, "25")));
+
+        assertEquals(BigDecimal.valueOf(125), balance);
+        assertEquals(2, store.get("acc1").size());
+        assertEquals(1, store.stats().faults());
+    }
+
+    @Test
+    @DisplayName("Get - Should fault an evicted account in once when accessed concurrently")
+    void get_concurrentAccessToEvictedAccount_shouldFaultInOnce() throws Exception {
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+        store.appendAll("acc1", List.of(deposit("acc1", 0, "100"), deposit("acc1", 1, "25")));
+        store.evictIdleAccounts();
+        int threads = 8;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<AccountHistory>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.get("acc1");
+                }));
+            }
+            AccountHistory history = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AccountHistory> result : results) {
+                assertSame(history, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(BigDecimal.valueOf(125), store.get("acc1").balance());
+        AccountStoreStats stats = store.stats();
+        assertEquals(1, stats.faults());
+        assertEquals(0, stats.accountsOnDisk());
+    }
+
+    @Test
+    @DisplayName("Get - Should return null for unknown account without creating it")
+    void get_unknownAccount_shouldReturnNull() {
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+
+        assertNull(store.get("unknown"));
+        assertNull(store.get("unknown"));
+        assertEquals(0, store.stats().residentAccounts());
+        assertEquals(0, store.stats().faults());
+    }
+
+    @Test
+    @DisplayName("Constructor - Should discard account files left by a previous run")
+    void constructor_existingAccountFiles_shouldBeCleared() throws IOException {
+        TieredAccountStore previous = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+        previous.appendAll("acc1", List.of(deposit("acc1", 0, "100")));
+        previous.evictIdleAccounts();
+
+        TieredAccountStore store = new TieredAccountStore(2, directory.toString(), Duration.ZERO, Long.MAX_VALUE);
+
+        assertEquals(0, accountFiles());
+        assertNull(store.get("acc1"));
+        assertEquals(0, store.stats().accountsOnDisk());
+    }
+
+    // Budget eviction runs on the evictor thread, so wait for it to settle
+    private static void awaitResidentAccounts(TieredAccountStore store, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.stats().residentAccounts() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, store.stats().residentAccounts());
+    }
+
+    private long accountFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".acct")).count();
+        }
+    }
+
+    private static Transaction deposit(String accountId, int day, String amount) {
+        return new Transaction("tx-" + accountId + "-" + day, accountId, new BigDecimal(amount),
+                TransactionType.DEPOSIT, START.plusDays(day), "Day " + day);
+    }
+}